@@ -0,0 +1,105 @@
+package org.apache.catalina.connector;
+
+import org.apache.coyote.http11.Http11Processor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Accepts connections from a listening socket and hands them over to a processor.
+ * <p>
+ * Several acceptors may share one listening socket, or each may own a socket bound
+ * with <code>SO_REUSEPORT</code> so the kernel balances connections across them.
+ * When a dedicated worker pool is given, every connection accepted here is processed
+ * by that pool only; otherwise a new thread is started per connection. Accepted
+ * connections get a read timeout, so that idle clients release their worker.
+ */
+class Acceptor implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(Acceptor.class);
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService workers;
+    private final int connectionTimeoutMillis;
+    private volatile boolean stopped;
+
+    Acceptor(final ServerSocket serverSocket, final ExecutorService workers, final int connectionTimeoutMillis) {
+        this.serverSocket = serverSocket;
+        this.workers = workers;
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.stopped = false;
+    }
+
+    @Override
+    public void run() {
+        while (!stopped) {
+            connect();
+        }
+    }
+
+    private void connect() {
+        try {
+            process(serverSocket.accept());
+        } catch (IOException e) {
+            if (!stopped) {
+                log.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void process(final Socket connection) {
+        if (connection == null) {
+            return;
+        }
+        if (stopped) {
+            close(connection);
+            return;
+        }
+        log.info("connect host: {}, port: {}", connection.getInetAddress(), connection.getPort());
+        try {
+            connection.setSoTimeout(connectionTimeoutMillis);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            close(connection);
+            return;
+        }
+        var processor = new Http11Processor(connection);
+        if (workers == null) {
+            new Thread(processor).start();
+            return;
+        }
+        try {
+            workers.execute(processor);
+        } catch (RejectedExecutionException e) {
+            log.warn("connector is stopping, closing connection from {}", connection.getInetAddress());
+            close(connection);
+        }
+    }
+
+    private void close(final Socket connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stops accepting. The listening socket must be closed afterwards to release a
+     * blocked <code>accept()</code>, and only then the workers shut down.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    void shutdownWorkers() {
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+}
@@ -1,80 +1,171 @@
 package org.apache.catalina.connector;
 
-import org.apache.coyote.http11.Http11Processor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
-import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class Connector implements Runnable {
+public class Connector {
 
     private static final Logger log = LoggerFactory.getLogger(Connector.class);
 
     private static final int DEFAULT_PORT = 8080;
     private static final int DEFAULT_ACCEPT_COUNT = 100;
+    private static final int DEFAULT_ACCEPTOR_COUNT = 1;
+    private static final int NO_DEDICATED_WORKERS = 0;
+    private static final int DEFAULT_CONNECTION_TIMEOUT_MILLIS = 20000;
+    private static final long STOP_TIMEOUT_MILLIS = 1000;
 
-    private final ServerSocket serverSocket;
-    private boolean stopped;
+    private final String name;
+    private final List<ServerSocket> serverSockets;
+    private final List<Acceptor> acceptors;
+    private final List<Thread> acceptorThreads;
 
     public Connector() {
         this(DEFAULT_PORT, DEFAULT_ACCEPT_COUNT);
     }
 
     public Connector(final int port, final int acceptCount) {
-        this.serverSocket = createServerSocket(port, acceptCount);
-        this.stopped = false;
+        this(port, acceptCount, DEFAULT_ACCEPTOR_COUNT, false, NO_DEDICATED_WORKERS);
     }
 
-    private ServerSocket createServerSocket(final int port, final int acceptCount) {
+    /**
+     * @param acceptorCount      number of threads accepting connections
+     * @param reusePort          give each acceptor its own listening socket bound with
+     *                           <code>SO_REUSEPORT</code>; falls back to one shared socket
+     *                           when the platform does not support the option
+     * @param workersPerAcceptor size of the worker pool pinned to each acceptor, or
+     *                           <code>0</code> to start a new thread per connection
+     */
+    public Connector(final int port, final int acceptCount, final int acceptorCount,
+                     final boolean reusePort, final int workersPerAcceptor) {
+        this(port, acceptCount, acceptorCount, reusePort, workersPerAcceptor, DEFAULT_CONNECTION_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param connectionTimeoutMillis how long a connection may wait for request data
+     *                                before it is closed, so an idle client cannot hold
+     *                                a worker forever; <code>0</code> waits indefinitely
+     */
+    public Connector(final int port, final int acceptCount, final int acceptorCount,
+                     final boolean reusePort, final int workersPerAcceptor, final int connectionTimeoutMillis) {
+        final int checkedPort = checkPort(port);
+        final int checkedAcceptCount = checkAcceptCount(acceptCount);
+        final int checkedAcceptorCount = checkAcceptorCount(acceptorCount);
+
+        this.name = "http-" + checkedPort;
+        this.serverSockets = createServerSockets(checkedPort, checkedAcceptCount, checkedAcceptorCount, reusePort);
+        this.acceptors = new ArrayList<>();
+        this.acceptorThreads = new ArrayList<>();
+        for (int i = 0; i < checkedAcceptorCount; i++) {
+            final var serverSocket = serverSockets.get(i % serverSockets.size());
+            acceptors.add(new Acceptor(serverSocket, createWorkers(i, workersPerAcceptor), checkConnectionTimeout(connectionTimeoutMillis)));
+        }
+    }
+
+    private List<ServerSocket> createServerSockets(final int port, final int acceptCount,
+                                                   final int acceptorCount, final boolean reusePort) {
+        if (!reusePort || acceptorCount == 1) {
+            return List.of(createServerSocket(port, acceptCount, false));
+        }
+        if (!isReusePortSupported()) {
+            log.warn("SO_REUSEPORT is not supported. {} acceptors share one listening socket.", acceptorCount);
+            return List.of(createServerSocket(port, acceptCount, false));
+        }
+        final List<ServerSocket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < acceptorCount; i++) {
+                sockets.add(createServerSocket(port, acceptCount, true));
+            }
+        } catch (UncheckedIOException e) {
+            closeServerSockets(sockets);
+            throw e;
+        }
+        return sockets;
+    }
+
+    private ServerSocket createServerSocket(final int port, final int acceptCount, final boolean reusePort) {
         try {
-            final int checkedPort = checkPort(port);
-            final int checkedAcceptCount = checkAcceptCount(acceptCount);
-            return new ServerSocket(checkedPort, checkedAcceptCount);
+            final var serverSocket = new ServerSocket();
+            if (reusePort) {
+                serverSocket.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            }
+            serverSocket.bind(new InetSocketAddress(port), acceptCount);
+            return serverSocket;
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
-    public void start() {
-        var thread = new Thread(this);
-        thread.setDaemon(true);
-        thread.start();
-        stopped = false;
+    private boolean isReusePortSupported() {
+        try (final var serverSocket = new ServerSocket()) {
+            return serverSocket.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
     }
 
-    @Override
-    public void run() {
-        while (!stopped) {
-            connect();
+    private ExecutorService createWorkers(final int acceptorIndex, final int workersPerAcceptor) {
+        if (workersPerAcceptor <= NO_DEDICATED_WORKERS) {
+            return null;
         }
+        return Executors.newFixedThreadPool(workersPerAcceptor, new WorkerThreadFactory(acceptorName(acceptorIndex) + "-worker-"));
     }
 
-    private void connect() {
-        try {
-            process(serverSocket.accept());
-        } catch (IOException e) {
-            log.error(e.getMessage(), e);
+    public void start() {
+        for (int i = 0; i < acceptors.size(); i++) {
+            var thread = new Thread(acceptors.get(i), acceptorName(i));
+            thread.setDaemon(true);
+            thread.start();
+            acceptorThreads.add(thread);
         }
     }
 
-    private void process(final Socket connection) {
-        if (connection == null) {
-            return;
-        }
-        log.info("connect host: {}, port: {}", connection.getInetAddress(), connection.getPort());
-        var processor = new Http11Processor(connection);
-        new Thread(processor).start();
+    private String acceptorName(final int acceptorIndex) {
+        return name + "-acceptor-" + acceptorIndex;
     }
 
     public void stop() {
-        stopped = true;
-        try {
-            serverSocket.close();
-        } catch (IOException e) {
-            log.error(e.getMessage(), e);
+        acceptors.forEach(Acceptor::stop);
+        closeServerSockets(serverSockets);
+        awaitAcceptors();
+        acceptors.forEach(Acceptor::shutdownWorkers);
+    }
+
+    /**
+     * A listening socket is only released once the thread blocked in its
+     * <code>accept()</code> has returned. Until then a <code>SO_REUSEPORT</code>
+     * socket may still be handed connections meant for a connector bound afterwards.
+     */
+    private void awaitAcceptors() {
+        for (final var thread : acceptorThreads) {
+            try {
+                thread.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        acceptorThreads.clear();
+    }
+
+    private void closeServerSockets(final List<ServerSocket> sockets) {
+        for (final var serverSocket : sockets) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                log.error(e.getMessage(), e);
+            }
         }
     }
 
@@ -91,4 +182,29 @@ public class Connector implements Runnable {
     private int checkAcceptCount(final int acceptCount) {
         return Math.max(acceptCount, DEFAULT_ACCEPT_COUNT);
     }
+
+    private int checkAcceptorCount(final int acceptorCount) {
+        return Math.max(acceptorCount, DEFAULT_ACCEPTOR_COUNT);
+    }
+
+    private int checkConnectionTimeout(final int connectionTimeoutMillis) {
+        return Math.max(connectionTimeoutMillis, 0);
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        WorkerThreadFactory(final String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            var thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,259 @@
+package org.apache.catalina.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Outgoing replication to one peer node, sent on a thread of its own so that a slow
+ * or unreachable peer never delays the others.
+ * <p>
+ * Every batch must be acknowledged by the peer and stays queued until it is. A batch
+ * without an acknowledgement, e.g. written to the stale socket of a restarted peer,
+ * is sent once more over a new connection and otherwise retried with the next
+ * batch. When too many batches pile up for an unreachable peer, they are replaced
+ * by the full session state, which is pushed once the peer is reachable again.
+ */
+class PeerConnection {
+
+    private static final Logger log = LoggerFactory.getLogger(PeerConnection.class);
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    private static final int ACK_TIMEOUT_MILLIS = 5000;
+    private static final int SYNC_TIMEOUT_MILLIS = 5000;
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+    private static final int MAX_UNACKNOWLEDGED_BATCHES = 1000;
+
+    private final InetSocketAddress address;
+    private final ObjectInputFilter inputFilter;
+    private final Supplier<List<SessionMessage>> fullState;
+    private final Deque<List<SessionMessage>> unacknowledged;
+    private final AtomicBoolean flushScheduled;
+    private boolean resyncRequired;
+    private int overflowCount;
+    private boolean failing;
+    private volatile ExecutorService sender;
+    private Socket socket;
+    private ObjectOutputStream outputStream;
+    private ObjectInputStream inputStream;
+
+    /**
+     * @param fullState all sessions of this node as messages which override what the
+     *                  peer knows, pushed after batches had to be discarded
+     */
+    PeerConnection(final InetSocketAddress address, final ObjectInputFilter inputFilter,
+                   final Supplier<List<SessionMessage>> fullState) {
+        this.address = address;
+        this.inputFilter = inputFilter;
+        this.fullState = fullState;
+        this.unacknowledged = new ArrayDeque<>();
+        this.flushScheduled = new AtomicBoolean();
+    }
+
+    void start() {
+        sender = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "session-replication-sender-" + address);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a batch for this peer and sends whatever is not yet acknowledged. An
+     * empty batch only retries the queued ones.
+     */
+    void offer(final List<SessionMessage> batch) {
+        synchronized (unacknowledged) {
+            if (!batch.isEmpty()) {
+                enqueue(batch);
+            }
+        }
+        scheduleFlush();
+    }
+
+    private void enqueue(final List<SessionMessage> batch) {
+        if (resyncRequired) {
+            // the full state pushed next already contains this change
+            return;
+        }
+        if (unacknowledged.size() >= MAX_UNACKNOWLEDGED_BATCHES) {
+            log.warn("too many unacknowledged batches for {}, the full session state is pushed instead", this);
+            unacknowledged.clear();
+            resyncRequired = true;
+            overflowCount++;
+            return;
+        }
+        unacknowledged.add(batch);
+    }
+
+    private void scheduleFlush() {
+        final ExecutorService currentSender = sender;
+        if (currentSender == null || !flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            currentSender.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            flushScheduled.set(false);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        try {
+            while (sendNext()) {
+                // until nothing is left to send
+            }
+            if (failing) {
+                log.info("session replication to {} recovered", this);
+                failing = false;
+            }
+        } catch (IOException e) {
+            if (!failing) {
+                log.warn("session replication to {} failed and will be retried: {}", this, e.getMessage());
+                failing = true;
+            }
+        }
+    }
+
+    private boolean sendNext() throws IOException {
+        final boolean resync;
+        final int overflowCountBefore;
+        final List<SessionMessage> batch;
+        synchronized (unacknowledged) {
+            resync = resyncRequired;
+            overflowCountBefore = overflowCount;
+            batch = resync ? null : unacknowledged.peek();
+        }
+        if (!resync && batch == null) {
+            return false;
+        }
+        send(resync ? fullState.get() : batch);
+        synchronized (unacknowledged) {
+            if (resync && overflowCount == overflowCountBefore) {
+                resyncRequired = false;
+            }
+            if (!resync && unacknowledged.peek() == batch) {
+                unacknowledged.poll();
+            }
+        }
+        return true;
+    }
+
+    private synchronized void send(final List<SessionMessage> batch) throws IOException {
+        try {
+            write(batch);
+        } catch (IOException e) {
+            close();
+            try {
+                write(batch);
+            } catch (IOException retryException) {
+                close();
+                throw retryException;
+            }
+        }
+    }
+
+    private void write(final List<SessionMessage> batch) throws IOException {
+        if (outputStream == null) {
+            connect();
+        }
+        outputStream.writeObject(new ArrayList<>(batch));
+        outputStream.flush();
+        // forget already written objects, otherwise changed attributes are sent as back references
+        outputStream.reset();
+        awaitAck();
+    }
+
+    private void awaitAck() throws IOException {
+        if (inputStream == null) {
+            inputStream = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            inputStream.setObjectInputFilter(inputFilter);
+        }
+        final int ack = inputStream.readInt();
+        if (ack != ReplicationReceiver.ACK) {
+            throw new StreamCorruptedException("unexpected replication acknowledgement: " + ack);
+        }
+    }
+
+    private void connect() throws IOException {
+        socket = new Socket();
+        socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(ACK_TIMEOUT_MILLIS);
+        outputStream = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /**
+     * Asks the peer for all sessions it knows over a dedicated short-lived connection.
+     */
+    List<SessionMessage> requestFullState() throws IOException, ClassNotFoundException {
+        try (final var syncSocket = new Socket()) {
+            syncSocket.connect(address, CONNECT_TIMEOUT_MILLIS);
+            syncSocket.setSoTimeout(SYNC_TIMEOUT_MILLIS);
+
+            final var syncOutputStream = new ObjectOutputStream(new BufferedOutputStream(syncSocket.getOutputStream()));
+            syncOutputStream.writeObject(new ArrayList<>(List.of(SessionMessage.syncRequest())));
+            syncOutputStream.flush();
+
+            final var syncInputStream = new ObjectInputStream(new BufferedInputStream(syncSocket.getInputStream()));
+            syncInputStream.setObjectInputFilter(inputFilter);
+            return ReplicationReceiver.readBatch(syncInputStream);
+        }
+    }
+
+    /**
+     * Stops sending once the batches offered so far had their chance to be sent.
+     */
+    void stop() {
+        final ExecutorService currentSender = sender;
+        sender = null;
+        if (currentSender != null) {
+            currentSender.shutdown();
+            try {
+                currentSender.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        close();
+    }
+
+    private synchronized void close() {
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        } finally {
+            socket = null;
+            outputStream = null;
+            inputStream = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return address.toString();
+    }
+}
@@ -0,0 +1,400 @@
+package org.apache.catalina.session;
+
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@link SessionManager} which replicates its sessions to the other nodes of a
+ * horizontally scaled deployment, so that a session created on one node is known
+ * on every node without sticky sessions.
+ * <p>
+ * Session changes never block the request: they are recorded per session, where
+ * later changes coalesce with earlier ones, and a background thread ships them as
+ * one batch per peer every batch interval over TCP. A node which starts asks its
+ * peers for their full session state before it replicates anything itself.
+ * <p>
+ * Only {@link Serializable} attribute values are replicated. Received batches are
+ * deserialized through an allowlist, so the classes of attribute values other than
+ * strings and boxed primitives must be allowed by the application.
+ */
+public class ReplicatedSessionManager extends SessionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicatedSessionManager.class);
+
+    private static final long DEFAULT_BATCH_INTERVAL_MILLIS = 100;
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final InetSocketAddress localAddress;
+    private final List<InetSocketAddress> peerAddresses;
+    private final List<PeerConnection> peers;
+    private final long batchIntervalMillis;
+    private final ObjectInputFilter inputFilter;
+    private final Map<String, PendingChange> pendingChanges;
+    private final Object applyLock = new Object();
+    private final Set<String> removedSessionIds = new HashSet<>();
+    private final Map<String, Set<String>> removedAttributeNames = new HashMap<>();
+    private boolean synchronizing;
+    private ReplicationReceiver receiver;
+    private ScheduledExecutorService replicator;
+
+    public ReplicatedSessionManager(final InetSocketAddress localAddress, final List<InetSocketAddress> peerAddresses) {
+        this(localAddress, peerAddresses, DEFAULT_BATCH_INTERVAL_MILLIS);
+    }
+
+    public ReplicatedSessionManager(final InetSocketAddress localAddress, final List<InetSocketAddress> peerAddresses,
+                                    final long batchIntervalMillis) {
+        this(localAddress, peerAddresses, batchIntervalMillis, List.of());
+    }
+
+    /**
+     * @param allowedClassPatterns additional classes which may be deserialized from
+     *                             peers, in {@link ObjectInputFilter.Config#createFilter}
+     *                             syntax, e.g. <code>com.example.LoginUser</code> or
+     *                             <code>com.example.session.*</code>
+     */
+    public ReplicatedSessionManager(final InetSocketAddress localAddress, final List<InetSocketAddress> peerAddresses,
+                                    final long batchIntervalMillis, final List<String> allowedClassPatterns) {
+        this.localAddress = localAddress;
+        this.peerAddresses = List.copyOf(peerAddresses);
+        this.inputFilter = ReplicationReceiver.inputFilter(allowedClassPatterns);
+        this.peers = peerAddresses.stream()
+                .map(address -> new PeerConnection(address, inputFilter, () -> fullState(SessionMessage.Type.CREATE)))
+                .collect(Collectors.toUnmodifiableList());
+        this.batchIntervalMillis = batchIntervalMillis;
+        this.pendingChanges = new ConcurrentHashMap<>();
+    }
+
+    public synchronized void start() {
+        receiver = new ReplicationReceiver(localAddress, peerAddresses, this, inputFilter);
+        receiver.start();
+        try {
+            synchronizeFullState();
+        } catch (RuntimeException e) {
+            receiver.stop();
+            receiver = null;
+            throw e;
+        }
+
+        peers.forEach(PeerConnection::start);
+        replicator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "session-replication-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        replicator.scheduleWithFixedDelay(this::replicate, batchIntervalMillis, batchIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deltas from peers are applied while the snapshots are requested one peer after
+     * the other, so removals seen meanwhile are remembered to keep an older snapshot
+     * from bringing back a removed session or attribute.
+     */
+    private void synchronizeFullState() {
+        synchronized (applyLock) {
+            synchronizing = true;
+        }
+        try {
+            for (final var peer : peers) {
+                try {
+                    peer.requestFullState().forEach(this::apply);
+                } catch (IOException | ClassNotFoundException e) {
+                    log.info("full session state of {} is not available: {}", peer, e.getMessage());
+                }
+            }
+        } finally {
+            synchronized (applyLock) {
+                synchronizing = false;
+                removedSessionIds.clear();
+                removedAttributeNames.clear();
+            }
+        }
+    }
+
+    public synchronized void stop() {
+        if (replicator != null) {
+            replicator.shutdown();
+            try {
+                replicator.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            replicate();
+            replicator = null;
+        }
+        peers.forEach(PeerConnection::stop);
+        if (receiver != null) {
+            receiver.stop();
+            receiver = null;
+        }
+    }
+
+    @Override
+    public void add(final HttpSession session) {
+        super.add(session);
+        pendingChanges.put(session.getId(), PendingChange.create());
+    }
+
+    @Override
+    public void remove(final HttpSession session) {
+        super.remove(session);
+        pendingChanges.compute(session.getId(), (id, pending) -> PendingChange.remove(pending));
+    }
+
+    @Override
+    protected void sessionChanged(final Session session, final String attributeName) {
+        if (findSession(session.getId()) != session) {
+            return;
+        }
+        pendingChanges.compute(session.getId(), (id, pending) -> PendingChange.update(pending, attributeName));
+    }
+
+    /**
+     * Hands the changes since the last batch to every peer. Each peer sends on its
+     * own thread and keeps what it could not deliver yet, so an empty batch still
+     * retries the changes an unreachable peer has missed.
+     */
+    private void replicate() {
+        try {
+            final List<SessionMessage> batch = List.copyOf(drainPendingChanges());
+            for (final var peer : peers) {
+                peer.offer(batch);
+            }
+        } catch (RuntimeException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    private List<SessionMessage> drainPendingChanges() {
+        final List<SessionMessage> batch = new ArrayList<>();
+        for (final String id : pendingChanges.keySet()) {
+            final var pending = pendingChanges.remove(id);
+            if (pending != null) {
+                toMessage(id, pending).ifPresent(batch::add);
+            }
+        }
+        return batch;
+    }
+
+    private Optional<SessionMessage> toMessage(final String id, final PendingChange pending) {
+        if (pending.type == SessionMessage.Type.REMOVE) {
+            return Optional.of(SessionMessage.remove(id));
+        }
+        final HttpSession session = findSession(id);
+        if (session == null) {
+            return Optional.empty();
+        }
+        if (pending.type == SessionMessage.Type.CREATE) {
+            return Optional.of(toMessage(SessionMessage.Type.CREATE, session, Collections.list(session.getAttributeNames())));
+        }
+        return Optional.of(toMessage(SessionMessage.Type.UPDATE, session, pending.attributeNames));
+    }
+
+    private SessionMessage toMessage(final SessionMessage.Type type, final HttpSession session,
+                                     final Collection<String> attributeNames) {
+        final Map<String, byte[]> attributes = new HashMap<>();
+        for (final String name : attributeNames) {
+            final Object value = session.getAttribute(name);
+            if (value == null) {
+                attributes.put(name, null);
+                continue;
+            }
+            if (!(value instanceof Serializable)) {
+                log.warn("attribute {} of session {} is not serializable and not replicated", name, session.getId());
+                continue;
+            }
+            try {
+                attributes.put(name, SessionMessage.serialize(value));
+            } catch (IOException e) {
+                log.warn("attribute {} of session {} cannot be serialized and is not replicated: {}",
+                        name, session.getId(), e.getMessage());
+            }
+        }
+        return new SessionMessage(type, session.getId(), session.getCreationTime(),
+                session.getMaxInactiveInterval(), attributes);
+    }
+
+    List<SessionMessage> fullState() {
+        return fullState(SessionMessage.Type.SYNC);
+    }
+
+    private List<SessionMessage> fullState(final SessionMessage.Type type) {
+        return sessions().stream()
+                .map(session -> toMessage(type, session, Collections.list(session.getAttributeNames())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Applies a change received from a peer without replicating it again.
+     */
+    void apply(final SessionMessage message) {
+        synchronized (applyLock) {
+            final HttpSession existing = findSession(message.getSessionId());
+            final Map<String, Object> attributes = deserializeAttributes(message);
+            switch (message.getType()) {
+                case CREATE:
+                    removedSessionIds.remove(message.getSessionId());
+                    applyChange(existing, message, attributes);
+                    break;
+                case UPDATE:
+                    rememberRemovedAttributes(message);
+                    applyChange(existing, message, attributes);
+                    break;
+                case SYNC:
+                    applySnapshot(existing, message, attributes);
+                    break;
+                case REMOVE:
+                    if (synchronizing) {
+                        removedSessionIds.add(message.getSessionId());
+                    }
+                    if (existing != null) {
+                        super.remove(existing);
+                    }
+                    break;
+                default:
+                    log.warn("unexpected replication message: {}", message.getType());
+            }
+        }
+    }
+
+    /**
+     * Values this node cannot deserialize, e.g. because their class is not allowed,
+     * are left out, while the rest of the session is still applied.
+     */
+    private Map<String, Object> deserializeAttributes(final SessionMessage message) {
+        final Map<String, Object> attributes = new HashMap<>();
+        message.getAttributes().forEach((name, value) -> {
+            if (value == null) {
+                attributes.put(name, null);
+                return;
+            }
+            try {
+                attributes.put(name, SessionMessage.deserialize(value, inputFilter));
+            } catch (IOException | ClassNotFoundException e) {
+                log.warn("attribute {} of session {} cannot be deserialized and is not replicated: {}",
+                        name, message.getSessionId(), e.getMessage());
+            }
+        });
+        return attributes;
+    }
+
+    /**
+     * An existing session is updated in place, even for a repeated creation, so that
+     * requests holding the session keep working on the one this manager knows.
+     */
+    private void applyChange(final HttpSession existing, final SessionMessage message,
+                             final Map<String, Object> attributes) {
+        if (existing == null) {
+            super.add(createSession(message, attributes));
+            return;
+        }
+        applyAttributes(existing, message, attributes, true);
+    }
+
+    private void rememberRemovedAttributes(final SessionMessage message) {
+        if (!synchronizing) {
+            return;
+        }
+        message.getAttributes().forEach((name, value) -> {
+            if (value == null) {
+                removedAttributeNames.computeIfAbsent(message.getSessionId(), id -> new HashSet<>()).add(name);
+            }
+        });
+    }
+
+    /**
+     * A snapshot never overrides what this node already knows, and never brings
+     * back what a delta has removed since synchronization started.
+     */
+    private void applySnapshot(final HttpSession existing, final SessionMessage message,
+                               final Map<String, Object> attributes) {
+        if (removedSessionIds.contains(message.getSessionId())) {
+            return;
+        }
+        attributes.keySet().removeAll(removedAttributeNames.getOrDefault(message.getSessionId(), Set.of()));
+
+        if (existing == null) {
+            super.add(createSession(message, attributes));
+            return;
+        }
+        applyAttributes(existing, message, attributes, false);
+    }
+
+    private Session createSession(final SessionMessage message, final Map<String, Object> attributes) {
+        final var session = new Session(message.getSessionId(), message.getCreationTime(),
+                message.getMaxInactiveInterval(), false, this);
+        attributes.forEach(session::applyAttribute);
+        return session;
+    }
+
+    private void applyAttributes(final HttpSession session, final SessionMessage message,
+                                 final Map<String, Object> attributes, final boolean overwrite) {
+        if (!(session instanceof Session)) {
+            attributes.forEach(session::setAttribute);
+            return;
+        }
+        final var replicated = (Session) session;
+        attributes.forEach((name, value) -> {
+            if (overwrite || replicated.getAttribute(name) == null) {
+                replicated.applyAttribute(name, value);
+            }
+        });
+        if (overwrite) {
+            replicated.applyMaxInactiveInterval(message.getMaxInactiveInterval());
+        }
+    }
+
+    /**
+     * Changes of one session recorded since the last batch. Only mutated inside
+     * {@link Map#compute}, so that a concurrent drain never observes a partial merge.
+     */
+    private static class PendingChange {
+
+        private final SessionMessage.Type type;
+        private final Set<String> attributeNames;
+
+        private PendingChange(final SessionMessage.Type type) {
+            this.type = type;
+            this.attributeNames = new HashSet<>();
+        }
+
+        static PendingChange create() {
+            return new PendingChange(SessionMessage.Type.CREATE);
+        }
+
+        static PendingChange update(final PendingChange pending, final String attributeName) {
+            final var merged = pending == null ? new PendingChange(SessionMessage.Type.UPDATE) : pending;
+            if (merged.type == SessionMessage.Type.UPDATE && attributeName != null) {
+                merged.attributeNames.add(attributeName);
+            }
+            return merged;
+        }
+
+        static PendingChange remove(final PendingChange pending) {
+            if (pending != null && pending.type == SessionMessage.Type.CREATE) {
+                // the peers have never seen this session
+                return null;
+            }
+            return new PendingChange(SessionMessage.Type.REMOVE);
+        }
+    }
+}
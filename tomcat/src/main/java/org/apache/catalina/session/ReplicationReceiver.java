@@ -0,0 +1,234 @@
+package org.apache.catalina.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts replication connections from peer nodes and applies the received
+ * session changes to its {@link ReplicatedSessionManager}. Every batch of changes
+ * is acknowledged; a full state request is answered with the full state instead.
+ * <p>
+ * Connections from hosts which are not configured as peers are refused, and the
+ * batches are deserialized through an allowlist filter only.
+ */
+class ReplicationReceiver implements Runnable {
+
+    static final int ACK = 1;
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationReceiver.class);
+
+    private static final long STOP_TIMEOUT_MILLIS = 1000;
+    // attribute values travel as byte arrays, so maxarray also bounds the size of one value
+    private static final String FILTER_LIMITS = "maxdepth=20;maxarray=1048576";
+    private static final List<String> REPLICATION_CLASSES = List.of(
+            SessionMessage.class.getName(),
+            SessionMessage.Type.class.getName(),
+            "java.lang.Enum",
+            "java.util.ArrayList",
+            "java.util.HashMap",
+            // component types of the backing arrays checked by the collections' readObject
+            "java.lang.Object",
+            "java.util.Map$Entry",
+            "java.util.ImmutableCollections$*",
+            "java.util.CollSer",
+            "java.lang.String",
+            "java.lang.Number",
+            "java.lang.Boolean",
+            "java.lang.Character",
+            "java.lang.Byte",
+            "java.lang.Short",
+            "java.lang.Integer",
+            "java.lang.Long",
+            "java.lang.Float",
+            "java.lang.Double");
+    private static final String REJECT_OTHERS = "!*";
+
+    private final ServerSocket serverSocket;
+    private final Set<InetAddress> peerHosts;
+    private final ReplicatedSessionManager manager;
+    private final ObjectInputFilter inputFilter;
+    private final Set<Socket> connections;
+    private Thread thread;
+    private volatile boolean stopped;
+
+    ReplicationReceiver(final InetSocketAddress localAddress, final List<InetSocketAddress> peerAddresses,
+                        final ReplicatedSessionManager manager, final ObjectInputFilter inputFilter) {
+        this.serverSocket = createServerSocket(localAddress);
+        this.peerHosts = peerAddresses.stream()
+                .map(InetSocketAddress::getAddress)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        this.manager = manager;
+        this.inputFilter = inputFilter;
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.stopped = false;
+    }
+
+    private ServerSocket createServerSocket(final InetSocketAddress localAddress) {
+        try {
+            final var socket = new ServerSocket();
+            socket.setReuseAddress(true);
+            socket.bind(localAddress);
+            return socket;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates the filter for replication streams, which accepts the replication
+     * messages, the collections and <code>java.lang</code> values they are made of,
+     * and the classes matching the given patterns in
+     * {@link ObjectInputFilter.Config#createFilter} syntax, e.g. the application's
+     * session attribute classes.
+     */
+    static ObjectInputFilter inputFilter(final List<String> allowedClassPatterns) {
+        final List<String> patterns = new ArrayList<>();
+        patterns.add(FILTER_LIMITS);
+        patterns.addAll(REPLICATION_CLASSES);
+        patterns.addAll(allowedClassPatterns);
+        patterns.add(REJECT_OTHERS);
+        return ObjectInputFilter.Config.createFilter(String.join(";", patterns));
+    }
+
+    void start() {
+        thread = new Thread(this, "session-replication-receiver");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        while (!stopped) {
+            accept();
+        }
+    }
+
+    private void accept() {
+        try {
+            final var connection = serverSocket.accept();
+            if (!peerHosts.contains(connection.getInetAddress())) {
+                log.warn("refused session replication from unknown host: {}", connection.getInetAddress());
+                connection.close();
+                return;
+            }
+            connections.add(connection);
+            var receiverThread = new Thread(() -> receive(connection), "session-replication-" + connection.getRemoteSocketAddress());
+            receiverThread.setDaemon(true);
+            receiverThread.start();
+        } catch (IOException e) {
+            if (!stopped) {
+                log.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void receive(final Socket connection) {
+        try (connection;
+             final var inputStream = new ObjectInputStream(new BufferedInputStream(connection.getInputStream()))) {
+            inputStream.setObjectInputFilter(inputFilter);
+            final var outputStream = new ObjectOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            while (!stopped) {
+                final List<SessionMessage> batch = readBatch(inputStream);
+                if (isSyncRequest(batch)) {
+                    outputStream.writeObject(new ArrayList<>(manager.fullState()));
+                    outputStream.flush();
+                    outputStream.reset();
+                    continue;
+                }
+                batch.forEach(manager::apply);
+                outputStream.writeInt(ACK);
+                outputStream.flush();
+            }
+        } catch (EOFException ignored) {
+            // the peer closed the connection
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            if (!stopped) {
+                log.error(e.getMessage(), e);
+            }
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    private boolean isSyncRequest(final List<SessionMessage> batch) {
+        return batch.stream().anyMatch(message -> message.getType() == SessionMessage.Type.SYNC_REQUEST);
+    }
+
+    static List<SessionMessage> readBatch(final ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+        final Object batch = inputStream.readObject();
+        if (!(batch instanceof List)) {
+            throw new StreamCorruptedException("unexpected replication message: " + batch);
+        }
+        final List<SessionMessage> messages = new ArrayList<>();
+        for (final Object message : (List<?>) batch) {
+            if (!(message instanceof SessionMessage) || !isValid((SessionMessage) message)) {
+                throw new StreamCorruptedException("unexpected replication message: " + message);
+            }
+            messages.add((SessionMessage) message);
+        }
+        return messages;
+    }
+
+    private static boolean isValid(final SessionMessage message) {
+        if (message.getType() == null || message.getAttributes() == null) {
+            return false;
+        }
+        if (message.getType() == SessionMessage.Type.SYNC_REQUEST) {
+            return true;
+        }
+        // immutable maps throw on containsKey(null)
+        return message.getSessionId() != null && message.getAttributes().keySet().stream().noneMatch(Objects::isNull);
+    }
+
+    void stop() {
+        stopped = true;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+        for (final var connection : connections) {
+            try {
+                connection.close();
+            } catch (IOException ignored) {
+            }
+        }
+        awaitTermination();
+    }
+
+    /**
+     * The listening socket is only released once the thread blocked in its
+     * <code>accept()</code> has returned, so a restarted node could not bind it yet.
+     */
+    private void awaitTermination() {
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
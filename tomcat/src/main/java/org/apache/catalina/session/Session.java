@@ -0,0 +1,175 @@
+package org.apache.catalina.session;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpSessionContext;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Standard implementation of the <b>HttpSession</b> interface. Every change of an
+ * attribute or of the inactive interval is reported to the owning
+ * {@link SessionManager}, so that managers which replicate sessions can pick it up.
+ */
+public class Session implements HttpSession {
+
+    private static final int DEFAULT_MAX_INACTIVE_INTERVAL = 1800;
+
+    private final String id;
+    private final long creationTime;
+    private final Map<String, Object> attributes;
+    private final SessionManager manager;
+    private volatile long lastAccessedTime;
+    private volatile int maxInactiveInterval;
+    private volatile boolean isNew;
+
+    public Session(final String id) {
+        this(id, null);
+    }
+
+    public Session(final String id, final SessionManager manager) {
+        this(id, System.currentTimeMillis(), DEFAULT_MAX_INACTIVE_INTERVAL, true, manager);
+    }
+
+    Session(final String id, final long creationTime, final int maxInactiveInterval,
+            final boolean isNew, final SessionManager manager) {
+        this.id = id;
+        this.creationTime = creationTime;
+        this.attributes = new ConcurrentHashMap<>();
+        this.manager = manager;
+        this.lastAccessedTime = creationTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.isNew = isNew;
+    }
+
+    @Override
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public long getLastAccessedTime() {
+        return lastAccessedTime;
+    }
+
+    public void access() {
+        lastAccessedTime = System.currentTimeMillis();
+        isNew = false;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return null;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(final int interval) {
+        maxInactiveInterval = interval;
+        changed(null);
+    }
+
+    @Override
+    public int getMaxInactiveInterval() {
+        return maxInactiveInterval;
+    }
+
+    @Override
+    @Deprecated
+    public HttpSessionContext getSessionContext() {
+        return null;
+    }
+
+    @Override
+    public Object getAttribute(final String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    @Deprecated
+    public Object getValue(final String name) {
+        return getAttribute(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    @Deprecated
+    public String[] getValueNames() {
+        return attributes.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public void setAttribute(final String name, final Object value) {
+        if (value == null) {
+            removeAttribute(name);
+            return;
+        }
+        attributes.put(name, value);
+        changed(name);
+    }
+
+    @Override
+    @Deprecated
+    public void putValue(final String name, final Object value) {
+        setAttribute(name, value);
+    }
+
+    @Override
+    public void removeAttribute(final String name) {
+        if (attributes.remove(name) != null) {
+            changed(name);
+        }
+    }
+
+    @Override
+    @Deprecated
+    public void removeValue(final String name) {
+        removeAttribute(name);
+    }
+
+    @Override
+    public void invalidate() {
+        if (manager != null) {
+            manager.remove(this);
+        }
+        attributes.clear();
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Applies an attribute change received from another node without reporting it
+     * back to the manager.
+     */
+    void applyAttribute(final String name, final Object value) {
+        if (value == null) {
+            attributes.remove(name);
+            return;
+        }
+        attributes.put(name, value);
+    }
+
+    void applyMaxInactiveInterval(final int interval) {
+        maxInactiveInterval = interval;
+    }
+
+    private void changed(final String attributeName) {
+        if (manager != null) {
+            manager.sessionChanged(this, attributeName);
+        }
+    }
+}
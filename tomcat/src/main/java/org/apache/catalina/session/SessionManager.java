@@ -0,0 +1,50 @@
+package org.apache.catalina.session;
+
+import jakarta.servlet.http.HttpSession;
+import org.apache.catalina.Manager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local {@link Manager} which keeps the active sessions in memory.
+ */
+public class SessionManager implements Manager {
+
+    private final Map<String, HttpSession> sessions = new ConcurrentHashMap<>();
+
+    public Session createSession() {
+        final var session = new Session(UUID.randomUUID().toString(), this);
+        add(session);
+        return session;
+    }
+
+    @Override
+    public void add(final HttpSession session) {
+        sessions.put(session.getId(), session);
+    }
+
+    @Override
+    public HttpSession findSession(final String id) {
+        return sessions.get(id);
+    }
+
+    @Override
+    public void remove(final HttpSession session) {
+        sessions.remove(session.getId());
+    }
+
+    /**
+     * Called by a {@link Session} of this manager after one of its attributes, or
+     * its inactive interval when <code>attributeName</code> is <code>null</code>,
+     * has changed.
+     */
+    protected void sessionChanged(final Session session, final String attributeName) {
+    }
+
+    protected Collection<HttpSession> sessions() {
+        return sessions.values();
+    }
+}
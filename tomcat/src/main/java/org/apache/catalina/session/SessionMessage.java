@@ -0,0 +1,92 @@
+package org.apache.catalina.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * A change of one session shipped between the nodes of a
+ * {@link ReplicatedSessionManager}. Attribute values are serialized one by one, so
+ * that a value which cannot be written or is rejected by the receiving node only
+ * loses that attribute instead of the whole batch.
+ */
+class SessionMessage implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    enum Type {
+        /** A new session together with all of its attributes. */
+        CREATE,
+        /** Changed attributes of an existing session; a <code>null</code> value removes the attribute. */
+        UPDATE,
+        REMOVE,
+        /** Asks the receiving node to answer with its full session state. */
+        SYNC_REQUEST,
+        /** One session of a full state answer; never overrides what the node already knows. */
+        SYNC
+    }
+
+    private final Type type;
+    private final String sessionId;
+    private final long creationTime;
+    private final int maxInactiveInterval;
+    private final Map<String, byte[]> attributes;
+
+    SessionMessage(final Type type, final String sessionId, final long creationTime,
+                   final int maxInactiveInterval, final Map<String, byte[]> attributes) {
+        this.type = type;
+        this.sessionId = sessionId;
+        this.creationTime = creationTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.attributes = attributes;
+    }
+
+    static SessionMessage remove(final String sessionId) {
+        return new SessionMessage(Type.REMOVE, sessionId, 0, 0, Map.of());
+    }
+
+    static SessionMessage syncRequest() {
+        return new SessionMessage(Type.SYNC_REQUEST, null, 0, 0, Map.of());
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    String getSessionId() {
+        return sessionId;
+    }
+
+    long getCreationTime() {
+        return creationTime;
+    }
+
+    int getMaxInactiveInterval() {
+        return maxInactiveInterval;
+    }
+
+    Map<String, byte[]> getAttributes() {
+        return attributes;
+    }
+
+    static byte[] serialize(final Object value) throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        try (final var outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Object deserialize(final byte[] value, final ObjectInputFilter inputFilter)
+            throws IOException, ClassNotFoundException {
+        try (final var inputStream = new ObjectInputStream(new ByteArrayInputStream(value))) {
+            inputStream.setObjectInputFilter(inputFilter);
+            return inputStream.readObject();
+        }
+    }
+}
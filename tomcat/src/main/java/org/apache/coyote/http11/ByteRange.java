@@ -0,0 +1,114 @@
+package org.apache.coyote.http11;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An inclusive byte range of a representation, as requested by a <code>Range</code> header.
+ */
+class ByteRange {
+
+    private static final String UNIT_PREFIX = "bytes=";
+    private static final int MAX_RANGE_COUNT = 16;
+
+    private final long start;
+    private final long end;
+
+    ByteRange(final long start, final long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Parses a <code>Range</code> header against a representation of the given length.
+     * Unsatisfiable ranges are dropped and overlapping or adjacent ranges are coalesced.
+     *
+     * @return empty if the header is malformed or asks for too many ranges and must be
+     *         ignored, otherwise the satisfiable ranges in ascending order, which may be
+     *         none at all
+     */
+    static Optional<List<ByteRange>> parse(final String header, final long length) {
+        if (!header.regionMatches(true, 0, UNIT_PREFIX, 0, UNIT_PREFIX.length())) {
+            return Optional.empty();
+        }
+        final String[] specs = header.substring(UNIT_PREFIX.length()).split(",");
+        if (specs.length > MAX_RANGE_COUNT) {
+            return Optional.empty();
+        }
+
+        final List<ByteRange> ranges = new ArrayList<>();
+        for (final String spec : specs) {
+            final Optional<ByteRange> range;
+            try {
+                range = parseSpec(spec.trim(), length);
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            range.ifPresent(ranges::add);
+        }
+        return Optional.of(coalesce(ranges));
+    }
+
+    private static Optional<ByteRange> parseSpec(final String spec, final long length) {
+        final int dashIndex = spec.indexOf('-');
+        if (dashIndex < 0) {
+            throw new IllegalArgumentException("invalid byte range: " + spec);
+        }
+        final String first = spec.substring(0, dashIndex).trim();
+        final String last = spec.substring(dashIndex + 1).trim();
+
+        if (first.isEmpty()) {
+            final long suffixLength = parsePosition(last);
+            if (suffixLength == 0 || length == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new ByteRange(Math.max(0, length - suffixLength), length - 1));
+        }
+
+        final long start = parsePosition(first);
+        final long end = last.isEmpty() ? Long.MAX_VALUE : parsePosition(last);
+        if (end < start) {
+            throw new IllegalArgumentException("invalid byte range: " + spec);
+        }
+        if (start >= length) {
+            return Optional.empty();
+        }
+        return Optional.of(new ByteRange(start, Math.min(end, length - 1)));
+    }
+
+    private static long parsePosition(final String position) {
+        if (position.isEmpty() || !position.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("invalid byte position: " + position);
+        }
+        return Long.parseLong(position);
+    }
+
+    private static List<ByteRange> coalesce(final List<ByteRange> ranges) {
+        ranges.sort(Comparator.comparingLong(range -> range.start));
+        final List<ByteRange> coalesced = new ArrayList<>();
+        for (final ByteRange range : ranges) {
+            final int lastIndex = coalesced.size() - 1;
+            if (lastIndex >= 0 && range.start <= coalesced.get(lastIndex).end + 1) {
+                final ByteRange previous = coalesced.get(lastIndex);
+                coalesced.set(lastIndex, new ByteRange(previous.start, Math.max(previous.end, range.end)));
+                continue;
+            }
+            coalesced.add(range);
+        }
+        return coalesced;
+    }
+
+    long getStart() {
+        return start;
+    }
+
+    long getLength() {
+        return end - start + 1;
+    }
+
+    String toContentRange(final long totalLength) {
+        return "bytes " + start + "-" + end + "/" + totalLength;
+    }
+}
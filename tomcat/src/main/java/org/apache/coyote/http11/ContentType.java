@@ -0,0 +1,32 @@
+package org.apache.coyote.http11;
+
+import java.util.Arrays;
+
+enum ContentType {
+
+    HTML("html", "text/html;charset=utf-8"),
+    CSS("css", "text/css;charset=utf-8"),
+    JS("js", "application/javascript;charset=utf-8"),
+    SVG("svg", "image/svg+xml"),
+    OCTET_STREAM("", "application/octet-stream");
+
+    private final String extension;
+    private final String value;
+
+    ContentType(final String extension, final String value) {
+        this.extension = extension;
+        this.value = value;
+    }
+
+    static ContentType from(final String fileName) {
+        final String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+        return Arrays.stream(values())
+                .filter(contentType -> contentType.extension.equalsIgnoreCase(extension))
+                .findFirst()
+                .orElse(OCTET_STREAM);
+    }
+
+    String getValue() {
+        return value;
+    }
+}
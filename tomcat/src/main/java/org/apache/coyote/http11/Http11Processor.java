@@ -6,12 +6,31 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 public class Http11Processor implements Runnable, Processor {
 
     private static final Logger log = LoggerFactory.getLogger(Http11Processor.class);
 
+    private static final String CRLF = "\r\n";
+    private static final String GET = "GET";
+    private static final String HEAD = "HEAD";
+    private static final String MULTIPART_BOUNDARY = "CATALINA_MIME_BOUNDARY";
+    private static final DateTimeFormatter HTTP_DATE_FORMATTER = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+            .withZone(ZoneOffset.UTC);
+
     private final Socket connection;
 
     public Http11Processor(final Socket connection) {
@@ -28,19 +47,182 @@ public class Http11Processor implements Runnable, Processor {
         try (final var inputStream = connection.getInputStream();
              final var outputStream = connection.getOutputStream()) {
 
-            final var responseBody = "Hello world!";
-
-            final var response = String.join("\r\n",
-                    "HTTP/1.1 200 OK ",
-                    "Content-Type: text/html;charset=utf-8 ",
-                    "Content-Length: " + responseBody.getBytes().length + " ",
-                    "",
-                    responseBody);
-
-            outputStream.write(response.getBytes());
+            final var request = HttpRequest.from(inputStream);
+            if ("/".equals(request.getPath())) {
+                writeHello(outputStream);
+            } else {
+                writeStaticResource(request, outputStream);
+            }
             outputStream.flush();
         } catch (IOException | UncheckedServletException e) {
             log.error(e.getMessage(), e);
         }
     }
+
+    private void writeHello(final OutputStream outputStream) throws IOException {
+        final var responseBody = "Hello world!";
+
+        final var response = String.join("\r\n",
+                "HTTP/1.1 200 OK ",
+                "Content-Type: text/html;charset=utf-8 ",
+                "Content-Length: " + responseBody.getBytes().length + " ",
+                "",
+                responseBody);
+
+        outputStream.write(response.getBytes());
+    }
+
+    private void writeStaticResource(final HttpRequest request, final OutputStream outputStream) throws IOException {
+        final boolean isHead = HEAD.equals(request.getMethod());
+        if (!GET.equals(request.getMethod()) && !isHead) {
+            writeMethodNotAllowed(outputStream);
+            return;
+        }
+        final Optional<StaticResource> found = StaticResource.find(request.getPath());
+        if (found.isEmpty()) {
+            writeNotFound(!isHead, outputStream);
+            return;
+        }
+        final var resource = found.get();
+        final Optional<List<ByteRange>> ranges = requestedRanges(request, resource);
+        if (ranges.isEmpty()) {
+            writeWhole(resource, !isHead, outputStream);
+            return;
+        }
+        if (ranges.get().isEmpty()) {
+            writeRangeNotSatisfiable(resource, outputStream);
+            return;
+        }
+        if (ranges.get().size() == 1) {
+            writeSingleRange(resource, ranges.get().get(0), outputStream);
+            return;
+        }
+        writeMultipleRanges(resource, ranges.get(), outputStream);
+    }
+
+    private Optional<List<ByteRange>> requestedRanges(final HttpRequest request, final StaticResource resource) {
+        final String range = request.getHeader("Range");
+        if (range == null || !GET.equals(request.getMethod()) || !isIfRangeSatisfied(request, resource)) {
+            return Optional.empty();
+        }
+        return ByteRange.parse(range, resource.getLength());
+    }
+
+    /**
+     * No entity tags are sent, so only an <code>If-Range</code> date equal to the
+     * <code>Last-Modified</code> date of the resource lets the range through.
+     */
+    private boolean isIfRangeSatisfied(final HttpRequest request, final StaticResource resource) {
+        final String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        try {
+            final Instant validator = Instant.from(HTTP_DATE_FORMATTER.parse(ifRange));
+            return validator.getEpochSecond() == resource.getLastModified() / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private void writeWhole(final StaticResource resource, final boolean withBody,
+                            final OutputStream outputStream) throws IOException {
+        final Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", resource.getContentType().getValue());
+        headers.put("Content-Length", String.valueOf(resource.getLength()));
+        headers.put("Accept-Ranges", "bytes");
+        headers.put("Last-Modified", lastModified(resource));
+
+        writeHeaders("HTTP/1.1 200 OK", headers, outputStream);
+        if (withBody) {
+            resource.transferTo(outputStream);
+        }
+    }
+
+    private void writeSingleRange(final StaticResource resource, final ByteRange range,
+                                  final OutputStream outputStream) throws IOException {
+        final Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", resource.getContentType().getValue());
+        headers.put("Content-Length", String.valueOf(range.getLength()));
+        headers.put("Content-Range", range.toContentRange(resource.getLength()));
+        headers.put("Accept-Ranges", "bytes");
+        headers.put("Last-Modified", lastModified(resource));
+
+        writeHeaders("HTTP/1.1 206 Partial Content", headers, outputStream);
+        resource.transferTo(outputStream, range);
+    }
+
+    private void writeMultipleRanges(final StaticResource resource, final List<ByteRange> ranges,
+                                     final OutputStream outputStream) throws IOException {
+        final String closeDelimiter = CRLF + "--" + MULTIPART_BOUNDARY + "--" + CRLF;
+        long contentLength = closeDelimiter.length();
+        for (final ByteRange range : ranges) {
+            contentLength += partHeaders(resource, range).length() + range.getLength();
+        }
+
+        final Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", "multipart/byteranges; boundary=" + MULTIPART_BOUNDARY);
+        headers.put("Content-Length", String.valueOf(contentLength));
+        headers.put("Accept-Ranges", "bytes");
+        headers.put("Last-Modified", lastModified(resource));
+
+        writeHeaders("HTTP/1.1 206 Partial Content", headers, outputStream);
+        for (final ByteRange range : ranges) {
+            outputStream.write(partHeaders(resource, range).getBytes(StandardCharsets.US_ASCII));
+            resource.transferTo(outputStream, range);
+        }
+        outputStream.write(closeDelimiter.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String partHeaders(final StaticResource resource, final ByteRange range) {
+        return CRLF + "--" + MULTIPART_BOUNDARY + CRLF
+                + "Content-Type: " + resource.getContentType().getValue() + CRLF
+                + "Content-Range: " + range.toContentRange(resource.getLength()) + CRLF
+                + CRLF;
+    }
+
+    private void writeRangeNotSatisfiable(final StaticResource resource, final OutputStream outputStream) throws IOException {
+        final Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Range", "bytes */" + resource.getLength());
+        headers.put("Content-Length", "0");
+
+        writeHeaders("HTTP/1.1 416 Range Not Satisfiable", headers, outputStream);
+    }
+
+    private void writeMethodNotAllowed(final OutputStream outputStream) throws IOException {
+        final Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Allow", GET + ", " + HEAD);
+        headers.put("Content-Length", "0");
+
+        writeHeaders("HTTP/1.1 405 Method Not Allowed", headers, outputStream);
+    }
+
+    private void writeNotFound(final boolean withBody, final OutputStream outputStream) throws IOException {
+        final var notFound = StaticResource.find("/404.html");
+        final Map<String, String> headers = new LinkedHashMap<>();
+        if (notFound.isEmpty()) {
+            headers.put("Content-Length", "0");
+            writeHeaders("HTTP/1.1 404 Not Found", headers, outputStream);
+            return;
+        }
+        headers.put("Content-Type", notFound.get().getContentType().getValue());
+        headers.put("Content-Length", String.valueOf(notFound.get().getLength()));
+
+        writeHeaders("HTTP/1.1 404 Not Found", headers, outputStream);
+        if (withBody) {
+            notFound.get().transferTo(outputStream);
+        }
+    }
+
+    private String lastModified(final StaticResource resource) {
+        return HTTP_DATE_FORMATTER.format(Instant.ofEpochMilli(resource.getLastModified()));
+    }
+
+    private void writeHeaders(final String statusLine, final Map<String, String> headers,
+                              final OutputStream outputStream) throws IOException {
+        final var response = new StringBuilder(statusLine).append(" ").append(CRLF);
+        headers.forEach((name, value) -> response.append(name).append(": ").append(value).append(" ").append(CRLF));
+        response.append(CRLF);
+        outputStream.write(response.toString().getBytes(StandardCharsets.US_ASCII));
+    }
 }
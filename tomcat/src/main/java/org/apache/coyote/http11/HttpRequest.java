@@ -0,0 +1,71 @@
+package org.apache.coyote.http11;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Request line and headers of an HTTP/1.1 request. The body is not read, and the
+ * query string is stripped from the path.
+ */
+class HttpRequest {
+
+    private static final String HEADER_DELIMITER = ":";
+    private static final char QUERY_DELIMITER = '?';
+
+    private final String method;
+    private final String path;
+    private final Map<String, String> headers;
+
+    private HttpRequest(final String method, final String path, final Map<String, String> headers) {
+        this.method = method;
+        this.path = path;
+        this.headers = headers;
+    }
+
+    static HttpRequest from(final InputStream inputStream) throws IOException {
+        final var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        final String requestLine = reader.readLine();
+        if (requestLine == null) {
+            throw new IOException("empty request");
+        }
+        final String[] tokens = requestLine.trim().split(" ");
+        if (tokens.length < 2) {
+            throw new IOException("malformed request line: " + requestLine);
+        }
+
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        String line;
+        while ((line = reader.readLine()) != null && !line.isBlank()) {
+            final int delimiterIndex = line.indexOf(HEADER_DELIMITER);
+            if (delimiterIndex > 0) {
+                headers.put(line.substring(0, delimiterIndex).trim(), line.substring(delimiterIndex + 1).trim());
+            }
+        }
+        return new HttpRequest(tokens[0], toPath(tokens[1]), headers);
+    }
+
+    private static String toPath(final String requestTarget) {
+        final int queryIndex = requestTarget.indexOf(QUERY_DELIMITER);
+        if (queryIndex < 0) {
+            return requestTarget;
+        }
+        return requestTarget.substring(0, queryIndex);
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    String getHeader(final String name) {
+        return headers.get(name);
+    }
+}
@@ -0,0 +1,94 @@
+package org.apache.coyote.http11;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * A file below the <code>static</code> directory of the classpath. Its content is
+ * never loaded as a whole: any region is transferred straight from the file channel
+ * position to the connection.
+ */
+class StaticResource {
+
+    private static final String STATIC_DIRECTORY = "static";
+    private static final String FILE_PROTOCOL = "file";
+
+    private final Path path;
+    private final long length;
+    private final long lastModified;
+    private final ContentType contentType;
+
+    private StaticResource(final Path path, final long length, final long lastModified) {
+        this.path = path;
+        this.length = length;
+        this.lastModified = lastModified;
+        this.contentType = ContentType.from(path.getFileName().toString());
+    }
+
+    static Optional<StaticResource> find(final String requestPath) throws IOException {
+        if (requestPath.contains("..")) {
+            return Optional.empty();
+        }
+        final URL resource = StaticResource.class.getClassLoader().getResource(STATIC_DIRECTORY + requestPath);
+        if (resource == null || !FILE_PROTOCOL.equals(resource.getProtocol())) {
+            return Optional.empty();
+        }
+        final Path path = toPath(resource);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new StaticResource(path, Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+    }
+
+    private static Path toPath(final URL resource) throws IOException {
+        try {
+            return Path.of(resource.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    void transferTo(final OutputStream outputStream) throws IOException {
+        transferTo(outputStream, 0, length);
+    }
+
+    void transferTo(final OutputStream outputStream, final ByteRange range) throws IOException {
+        transferTo(outputStream, range.getStart(), range.getLength());
+    }
+
+    private void transferTo(final OutputStream outputStream, final long position, final long count) throws IOException {
+        // the target channel is not closed, since that would close the connection's output stream
+        final var target = Channels.newChannel(outputStream);
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long transferred = 0;
+            while (transferred < count) {
+                final long bytes = channel.transferTo(position + transferred, count - transferred, target);
+                if (bytes <= 0) {
+                    throw new EOFException("static resource changed while being served: " + path);
+                }
+                transferred += bytes;
+            }
+        }
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    long getLastModified() {
+        return lastModified;
+    }
+
+    ContentType getContentType() {
+        return contentType;
+    }
+}
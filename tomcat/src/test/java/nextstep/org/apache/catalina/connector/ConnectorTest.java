@@ -0,0 +1,100 @@
+package nextstep.org.apache.catalina.connector;
+
+import org.apache.catalina.connector.Connector;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectorTest {
+
+    private static final int ACCEPTOR_COUNT = 4;
+    private static final int CONNECTION_COUNT = 20;
+    private static final int IDLE_TIMEOUT_MILLIS = 200;
+    private static final int CLIENT_TIMEOUT_MILLIS = 5000;
+
+    @Test
+    void 여러_acceptor가_연결을_처리한다() throws IOException {
+        // given
+        final int port = freePort();
+        final var connector = new Connector(port, 100, ACCEPTOR_COUNT, true, 2);
+
+        // when
+        connector.start();
+
+        // then
+        try {
+            assertThat(acceptorThreadCount(port)).isEqualTo(ACCEPTOR_COUNT);
+            for (int i = 0; i < CONNECTION_COUNT; i++) {
+                assertThat(request(port)).startsWith("HTTP/1.1 200 OK ");
+            }
+        } finally {
+            connector.stop();
+        }
+    }
+
+    @Test
+    void 종료하면_포트를_다시_사용할_수_있다() throws IOException {
+        // given
+        final int port = freePort();
+        final var connector = new Connector(port, 100, ACCEPTOR_COUNT, true, 2);
+        connector.start();
+        assertThat(request(port)).startsWith("HTTP/1.1 200 OK ");
+
+        // when
+        connector.stop();
+        final var restarted = new Connector(port, 100, ACCEPTOR_COUNT, true, 2);
+        restarted.start();
+
+        // then
+        try {
+            assertThat(request(port)).startsWith("HTTP/1.1 200 OK ");
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void 유휴_연결은_시간이_지나면_작업자를_반환한다() throws IOException {
+        // given
+        final int port = freePort();
+        final var connector = new Connector(port, 100, 1, false, 1, IDLE_TIMEOUT_MILLIS);
+        connector.start();
+
+        // when
+        try (final var idle = new Socket(InetAddress.getLoopbackAddress(), port)) {
+
+            // then
+            assertThat(request(port)).startsWith("HTTP/1.1 200 OK ");
+        } finally {
+            connector.stop();
+        }
+    }
+
+    private String request(final int port) throws IOException {
+        try (final var socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setSoTimeout(CLIENT_TIMEOUT_MILLIS);
+            socket.getOutputStream().write("GET / HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().flush();
+            return new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private int acceptorThreadCount(final int port) {
+        return (int) Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().matches("http-" + port + "-acceptor-\\d+"))
+                .filter(Thread::isAlive)
+                .count();
+    }
+
+    private int freePort() throws IOException {
+        try (final var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
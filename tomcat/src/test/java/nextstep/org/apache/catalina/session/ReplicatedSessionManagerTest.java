@@ -0,0 +1,215 @@
+package nextstep.org.apache.catalina.session;
+
+import org.apache.catalina.session.ReplicatedSessionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class ReplicatedSessionManagerTest {
+
+    private static final long BATCH_INTERVAL_MILLIS = 10;
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private final List<ReplicatedSessionManager> managers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        managers.forEach(ReplicatedSessionManager::stop);
+    }
+
+    @Test
+    void 생성한_세션이_다른_노드에_복제된다() throws IOException {
+        // given
+        final var addresses = List.of(freeAddress(), freeAddress());
+        final var first = start(addresses, 0);
+        final var second = start(addresses, 1);
+
+        // when
+        final var session = first.createSession();
+        session.setAttribute("user", "gugu");
+
+        // then
+        assertThat(await(() -> second.findSession(session.getId()) != null
+                && "gugu".equals(second.findSession(session.getId()).getAttribute("user")))).isTrue();
+    }
+
+    @Test
+    void 변경과_삭제가_다른_노드에_복제된다() throws IOException {
+        // given
+        final var addresses = List.of(freeAddress(), freeAddress());
+        final var first = start(addresses, 0);
+        final var second = start(addresses, 1);
+        final var session = first.createSession();
+        session.setAttribute("user", "gugu");
+        await(() -> second.findSession(session.getId()) != null);
+
+        // when
+        second.findSession(session.getId()).setAttribute("user", "ohzzi");
+
+        // then
+        assertThat(await(() -> "ohzzi".equals(session.getAttribute("user")))).isTrue();
+
+        // when
+        session.invalidate();
+
+        // then
+        assertThat(await(() -> second.findSession(session.getId()) == null)).isTrue();
+    }
+
+    @Test
+    void 새로_참여한_노드는_전체_세션을_동기화한다() throws IOException {
+        // given
+        final var addresses = List.of(freeAddress(), freeAddress());
+        final var first = start(addresses, 0);
+        final var session = first.createSession();
+        session.setAttribute("user", "gugu");
+
+        // when
+        final var second = start(addresses, 1);
+
+        // then
+        assertThat(second.findSession(session.getId())).isNotNull();
+        assertThat(second.findSession(session.getId()).getAttribute("user")).isEqualTo("gugu");
+    }
+
+    @Test
+    void 재시작한_노드에도_이후의_세션이_빠짐없이_복제된다() throws IOException {
+        // given
+        final var addresses = List.of(freeAddress(), freeAddress());
+        final var first = start(addresses, 0);
+        final var second = start(addresses, 1);
+        final var before = first.createSession();
+        await(() -> second.findSession(before.getId()) != null);
+
+        // when
+        second.stop();
+        final var restarted = start(addresses, 1);
+        final var after = first.createSession();
+        after.setAttribute("user", "gugu");
+
+        // then
+        assertThat(restarted.findSession(before.getId())).isNotNull();
+        assertThat(await(() -> restarted.findSession(after.getId()) != null
+                && "gugu".equals(restarted.findSession(after.getId()).getAttribute("user")))).isTrue();
+    }
+
+    @Test
+    void 허용한_애플리케이션_클래스의_속성이_복제된다() throws IOException {
+        // given
+        final var addresses = List.of(freeAddress(), freeAddress());
+        final var allowed = List.of(LoginUser.class.getName());
+        final var first = start(addresses, 0, allowed);
+        final var second = start(addresses, 1, allowed);
+
+        // when
+        final var session = first.createSession();
+        session.setAttribute("user", new LoginUser("gugu"));
+
+        // then
+        assertThat(await(() -> second.findSession(session.getId()) != null
+                && second.findSession(session.getId()).getAttribute("user") instanceof LoginUser)).isTrue();
+    }
+
+    @Test
+    void 복제할_수_없는_속성만_빠지고_나머지는_복제된다() throws IOException {
+        // given
+        final var addresses = List.of(freeAddress(), freeAddress());
+        final var first = start(addresses, 0, List.of(LoginUser.class.getName()));
+        final var second = start(addresses, 1);
+
+        // when
+        final var rejected = first.createSession();
+        rejected.setAttribute("user", new LoginUser("gugu"));
+        rejected.setAttribute("name", "gugu");
+        final var unserializable = first.createSession();
+        unserializable.setAttribute("holder", new Holder(new Object()));
+        unserializable.setAttribute("name", "hoho");
+        final var plain = first.createSession();
+        plain.setAttribute("name", "dodo");
+
+        // then
+        assertThat(await(() -> second.findSession(plain.getId()) != null)).isTrue();
+        assertThat(await(() -> second.findSession(rejected.getId()) != null
+                && second.findSession(unserializable.getId()) != null)).isTrue();
+        assertThat(second.findSession(rejected.getId()).getAttribute("user")).isNull();
+        assertThat(second.findSession(rejected.getId()).getAttribute("name")).isEqualTo("gugu");
+        assertThat(second.findSession(unserializable.getId()).getAttribute("holder")).isNull();
+        assertThat(second.findSession(unserializable.getId()).getAttribute("name")).isEqualTo("hoho");
+        assertThat(second.findSession(plain.getId()).getAttribute("name")).isEqualTo("dodo");
+    }
+
+    @Test
+    void 시작하지_않은_매니저도_종료할_수_있다() throws IOException {
+        // given
+        final var manager = new ReplicatedSessionManager(freeAddress(), List.of(freeAddress()));
+
+        // when, then
+        assertThatCode(manager::stop).doesNotThrowAnyException();
+    }
+
+    private ReplicatedSessionManager start(final List<InetSocketAddress> addresses, final int index) {
+        return start(addresses, index, List.of());
+    }
+
+    private ReplicatedSessionManager start(final List<InetSocketAddress> addresses, final int index,
+                                           final List<String> allowedClassPatterns) {
+        final List<InetSocketAddress> peers = new ArrayList<>(addresses);
+        final var localAddress = peers.remove(index);
+        final var manager = new ReplicatedSessionManager(localAddress, peers, BATCH_INTERVAL_MILLIS, allowedClassPatterns);
+        manager.start();
+        managers.add(manager);
+        return manager;
+    }
+
+    private InetSocketAddress freeAddress() throws IOException {
+        final var loopback = InetAddress.getLoopbackAddress();
+        try (final var socket = new ServerSocket(0, 1, loopback)) {
+            return new InetSocketAddress(loopback, socket.getLocalPort());
+        }
+    }
+
+    private boolean await(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(BATCH_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+
+    private static class Holder implements Serializable {
+
+        private final Object value;
+
+        private Holder(final Object value) {
+            this.value = value;
+        }
+    }
+
+    private static class LoginUser implements Serializable {
+
+        private final String account;
+
+        LoginUser(final String account) {
+            this.account = account;
+        }
+    }
+}
@@ -8,11 +8,20 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class Http11ProcessorTest {
 
+    private static final DateTimeFormatter HTTP_DATE_FORMATTER = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+            .withZone(ZoneOffset.UTC);
+
     @Test
     void process() {
         // given
@@ -54,9 +63,204 @@ class Http11ProcessorTest {
         var expected = "HTTP/1.1 200 OK \r\n" +
                 "Content-Type: text/html;charset=utf-8 \r\n" +
                 "Content-Length: 5564 \r\n" +
+                "Accept-Ranges: bytes \r\n" +
+                "Last-Modified: " + lastModified(resource) + " \r\n" +
                 "\r\n"+
                 new String(Files.readAllBytes(new File(resource.getFile()).toPath()));
 
         assertThat(socket.output()).isEqualTo(expected);
     }
+
+    @Test
+    void range() throws IOException {
+        // given
+        final String httpRequest= String.join("\r\n",
+                "GET /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Range: bytes=0-14 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final URL resource = getClass().getClassLoader().getResource("static/index.html");
+        var expected = "HTTP/1.1 206 Partial Content \r\n" +
+                "Content-Type: text/html;charset=utf-8 \r\n" +
+                "Content-Length: 15 \r\n" +
+                "Content-Range: bytes 0-14/5564 \r\n" +
+                "Accept-Ranges: bytes \r\n" +
+                "Last-Modified: " + lastModified(resource) + " \r\n" +
+                "\r\n"+
+                "<!DOCTYPE html>";
+
+        assertThat(socket.output()).isEqualTo(expected);
+    }
+
+    @Test
+    void multipleRanges() throws IOException {
+        // given
+        final String httpRequest= String.join("\r\n",
+                "GET /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Range: bytes=0-1, -7 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final URL resource = getClass().getClassLoader().getResource("static/index.html");
+        final String body = "\r\n--CATALINA_MIME_BOUNDARY\r\n" +
+                "Content-Type: text/html;charset=utf-8\r\n" +
+                "Content-Range: bytes 0-1/5564\r\n" +
+                "\r\n" +
+                "<!" +
+                "\r\n--CATALINA_MIME_BOUNDARY\r\n" +
+                "Content-Type: text/html;charset=utf-8\r\n" +
+                "Content-Range: bytes 5557-5563/5564\r\n" +
+                "\r\n" +
+                "/html>\n" +
+                "\r\n--CATALINA_MIME_BOUNDARY--\r\n";
+        var expected = "HTTP/1.1 206 Partial Content \r\n" +
+                "Content-Type: multipart/byteranges; boundary=CATALINA_MIME_BOUNDARY \r\n" +
+                "Content-Length: " + body.length() + " \r\n" +
+                "Accept-Ranges: bytes \r\n" +
+                "Last-Modified: " + lastModified(resource) + " \r\n" +
+                "\r\n" +
+                body;
+
+        assertThat(socket.output()).isEqualTo(expected);
+    }
+
+    @Test
+    void rangeNotSatisfiable() {
+        // given
+        final String httpRequest= String.join("\r\n",
+                "GET /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Range: bytes=6000- ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        var expected = "HTTP/1.1 416 Range Not Satisfiable \r\n" +
+                "Content-Range: bytes */5564 \r\n" +
+                "Content-Length: 0 \r\n" +
+                "\r\n";
+
+        assertThat(socket.output()).isEqualTo(expected);
+    }
+
+    @Test
+    void ifRangeMismatch() {
+        // given
+        final String httpRequest= String.join("\r\n",
+                "GET /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Range: bytes=0-14 ",
+                "If-Range: \"outdated\" ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).startsWith("HTTP/1.1 200 OK \r\n");
+        assertThat(socket.output()).contains("Content-Length: 5564 \r\n");
+    }
+
+    @Test
+    void head() throws IOException {
+        // given
+        final String httpRequest= String.join("\r\n",
+                "HEAD /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final URL resource = getClass().getClassLoader().getResource("static/index.html");
+        var expected = "HTTP/1.1 200 OK \r\n" +
+                "Content-Type: text/html;charset=utf-8 \r\n" +
+                "Content-Length: 5564 \r\n" +
+                "Accept-Ranges: bytes \r\n" +
+                "Last-Modified: " + lastModified(resource) + " \r\n" +
+                "\r\n";
+
+        assertThat(socket.output()).isEqualTo(expected);
+    }
+
+    @Test
+    void methodNotAllowed() {
+        // given
+        final String httpRequest= String.join("\r\n",
+                "DELETE /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        var expected = "HTTP/1.1 405 Method Not Allowed \r\n" +
+                "Allow: GET, HEAD \r\n" +
+                "Content-Length: 0 \r\n" +
+                "\r\n";
+
+        assertThat(socket.output()).isEqualTo(expected);
+    }
+
+    @Test
+    void queryString() {
+        // given
+        final String httpRequest= String.join("\r\n",
+                "GET /index.html?x=1 HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).startsWith("HTTP/1.1 200 OK \r\n");
+        assertThat(socket.output()).contains("Content-Length: 5564 \r\n");
+    }
+
+    private String lastModified(final URL resource) throws IOException {
+        final Path path = new File(resource.getFile()).toPath();
+        return HTTP_DATE_FORMATTER.format(Instant.ofEpochMilli(Files.getLastModifiedTime(path).toMillis()));
+    }
 }